@@ -2,6 +2,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 
 class Graph {
     private ArrayList<Node> nodes;
@@ -30,6 +31,40 @@ class Graph {
         initializeGraph();
     }
 
+    // Copies node positions, animation state and the highlighted path so the copy can be
+    // rendered off the Swing thread while the original keeps animating
+    private Graph(Graph other) {
+        this.adjacencyMatrix = other.adjacencyMatrix;
+        this.label = other.label;
+        this.nodes = new ArrayList<>();
+        this.edges = new ArrayList<>();
+        this.shortestPathEdges = new ArrayList<>();
+        this.shortestPathNodes = new ArrayList<>();
+
+        for (Node node : other.nodes) {
+            Node copy = new Node(node.getId(), node.getX(), node.getY());
+            copy.setAnimating(node.isAnimating());
+            copy.setAnimationProgress(node.getAnimationProgress());
+            nodes.add(copy);
+        }
+
+        HashMap<Edge, Edge> edgeCopies = new HashMap<>();
+        for (Edge edge : other.edges) {
+            Edge copy = new Edge(nodes.get(edge.getSource().getId()), nodes.get(edge.getTarget().getId()), edge.getWeight());
+            copy.setAnimating(edge.isAnimating());
+            copy.setAnimationProgress(edge.getAnimationProgress());
+            edges.add(copy);
+            edgeCopies.put(edge, copy);
+        }
+
+        for (Edge edge : other.shortestPathEdges) shortestPathEdges.add(edgeCopies.get(edge));
+        for (Node node : other.shortestPathNodes) shortestPathNodes.add(nodes.get(node.getId()));
+    }
+
+    public Graph snapshot() {
+        return new Graph(this);
+    }
+
     private void initializeGraph() {
         int n = adjacencyMatrix.length;
 
@@ -0,0 +1,388 @@
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.*;
+import java.util.ArrayList;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+class GraphExporter {
+    // Extra space around a node or edge that its glow, arrow and weight label can paint into
+    private static final int NODE_MARGIN = 60;
+    private static final int EDGE_MARGIN = 48;
+    private static final int PNG_CHUNK_SIZE = 64 * 1024;
+
+    // Private snapshot; the live graph is mutated by the animation timer. When a
+    // GraphVisualizer is running, create the exporter on the Swing thread so the copy is consistent.
+    private Graph graph;
+    private int width, height;
+    private int tileSize;
+    private int columns, rows;
+    // Canvas pixel = graph coordinate * scale + offset
+    private double scale;
+    private double offsetX, offsetY;
+    private ArrayList<ArrayList<Edge>> tileEdges;
+    private ArrayList<ArrayList<Node>> tileNodes;
+
+    public GraphExporter(Graph graph, int width, int height, int tileSize) {
+        this(graph, width, height, tileSize, 1.0);
+    }
+
+    public GraphExporter(Graph graph, int width, int height, int tileSize, double scale) {
+        this(graph.snapshot(), width, height, tileSize, scale, 0, 0);
+    }
+
+    // Takes ownership of an already snapshotted graph
+    private GraphExporter(Graph graph, int width, int height, int tileSize, double scale, double offsetX, double offsetY) {
+        if (width <= 0 || height <= 0 || tileSize <= 0 || scale <= 0) {
+            throw new IllegalArgumentException("Canvas size, tile size and scale must be positive");
+        }
+        this.scale = scale;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.graph = graph;
+        this.width = width;
+        this.height = height;
+        this.tileSize = tileSize;
+        this.columns = (width + tileSize - 1) / tileSize;
+        this.rows = (height + tileSize - 1) / tileSize;
+        buildBuckets();
+    }
+
+    // Scales the graph uniformly so that all nodes fill the canvas, centered
+    public static GraphExporter fitToCanvas(Graph graph, int width, int height, int tileSize) {
+        // Bounds come from the same snapshot that gets rendered, so a node dragged meanwhile still fits
+        Graph snapshot = graph.snapshot();
+        if (snapshot.getNodes().isEmpty()) {
+            return new GraphExporter(snapshot, width, height, tileSize, 1.0, 0, 0);
+        }
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (Node node : snapshot.getNodes()) {
+            minX = Math.min(minX, node.getX() - NODE_MARGIN);
+            minY = Math.min(minY, node.getY() - NODE_MARGIN);
+            maxX = Math.max(maxX, node.getX() + NODE_MARGIN);
+            maxY = Math.max(maxY, node.getY() + NODE_MARGIN);
+        }
+        double scale = Math.min((double) width / (maxX - minX), (double) height / (maxY - minY));
+        double offsetX = (width - (maxX - minX) * scale) / 2 - minX * scale;
+        double offsetY = (height - (maxY - minY) * scale) / 2 - minY * scale;
+        return new GraphExporter(snapshot, width, height, tileSize, scale, offsetX, offsetY);
+    }
+
+    // Spatial bucket: each tile keeps the edges and nodes that can paint into it, in graph order
+    private void buildBuckets() {
+        tileEdges = new ArrayList<>();
+        tileNodes = new ArrayList<>();
+        for (int i = 0; i < columns * rows; i++) {
+            tileEdges.add(new ArrayList<>());
+            tileNodes.add(new ArrayList<>());
+        }
+
+        double edgeMargin = EDGE_MARGIN * scale;
+        double nodeMargin = NODE_MARGIN * scale;
+
+        for (Edge edge : graph.getEdges()) {
+            double x1 = toCanvasX(edge.getSource().getX());
+            double y1 = toCanvasY(edge.getSource().getY());
+            double x2 = toCanvasX(edge.getTarget().getX());
+            double y2 = toCanvasY(edge.getTarget().getY());
+
+            int minCol = clampColumn(Math.min(x1, x2) - edgeMargin);
+            int maxCol = clampColumn(Math.max(x1, x2) + edgeMargin);
+            int minRow = clampRow(Math.min(y1, y2) - edgeMargin);
+            int maxRow = clampRow(Math.max(y1, y2) + edgeMargin);
+
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int col = minCol; col <= maxCol; col++) {
+                    Rectangle2D area = new Rectangle2D.Double(col * tileSize - edgeMargin, row * tileSize - edgeMargin,
+                            tileSize + 2 * edgeMargin, tileSize + 2 * edgeMargin);
+                    if (area.intersectsLine(x1, y1, x2, y2)) {
+                        tileEdges.get(row * columns + col).add(edge);
+                    }
+                }
+            }
+        }
+
+        for (Node node : graph.getNodes()) {
+            double x = toCanvasX(node.getX());
+            double y = toCanvasY(node.getY());
+            int minCol = clampColumn(x - nodeMargin);
+            int maxCol = clampColumn(x + nodeMargin);
+            int minRow = clampRow(y - nodeMargin);
+            int maxRow = clampRow(y + nodeMargin);
+
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int col = minCol; col <= maxCol; col++) {
+                    tileNodes.get(row * columns + col).add(node);
+                }
+            }
+        }
+    }
+
+    private double toCanvasX(int x) {
+        return x * scale + offsetX;
+    }
+
+    private double toCanvasY(int y) {
+        return y * scale + offsetY;
+    }
+
+    private int clampColumn(double x) {
+        return (int) Math.max(0, Math.min(columns - 1, Math.floor(x / tileSize)));
+    }
+
+    private int clampRow(double y) {
+        return (int) Math.max(0, Math.min(rows - 1, Math.floor(y / tileSize)));
+    }
+
+    public BufferedImage renderTile(int col, int row) {
+        int tileX = col * tileSize;
+        int tileY = row * tileSize;
+        int tileWidth = Math.min(tileSize, width - tileX);
+        int tileHeight = Math.min(tileSize, height - tileY);
+
+        BufferedImage image = new BufferedImage(tileWidth, tileHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.setColor(Color.WHITE);
+            g2d.fillRect(0, 0, tileWidth, tileHeight);
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.translate(-tileX + offsetX, -tileY + offsetY);
+            g2d.scale(scale, scale);
+            GraphPanel.drawGraph(g2d, graph, tileEdges.get(row * columns + col), tileNodes.get(row * columns + col));
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+
+    public void exportPng(File file) throws IOException {
+        exportPng(file, Runtime.getRuntime().availableProcessors());
+    }
+
+    // Tiles of one row band are rendered in parallel and streamed out band by band,
+    // so at most two bands of pixels are held in memory
+    public void exportPng(File file, int threads) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            out.write(new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            DataOutputStream headerData = new DataOutputStream(header);
+            headerData.writeInt(width);
+            headerData.writeInt(height);
+            headerData.writeByte(8);  // Bit depth
+            headerData.writeByte(2);  // Truecolor RGB
+            headerData.writeByte(0);  // Deflate
+            headerData.writeByte(0);  // Adaptive filtering
+            headerData.writeByte(0);  // No interlace
+            writeChunk(out, "IHDR", header.toByteArray(), header.size());
+
+            DeflaterOutputStream pixels = new DeflaterOutputStream(new IdatOutputStream(out),
+                    deflater, PNG_CHUNK_SIZE);
+            byte[] scanline = new byte[1 + width * 3];
+
+            // The next band renders on the pool while the current one is being compressed
+            ArrayList<Future<BufferedImage>> nextBand = submitBand(executor, 0);
+            for (int row = 0; row < rows; row++) {
+                ArrayList<Future<BufferedImage>> band = nextBand;
+                nextBand = row + 1 < rows ? submitBand(executor, row + 1) : null;
+
+                int[][] bandPixels = new int[columns][];
+                for (int col = 0; col < columns; col++) {
+                    bandPixels[col] = ((DataBufferInt) awaitTile(band.get(col)).getRaster().getDataBuffer()).getData();
+                }
+
+                int bandHeight = Math.min(tileSize, height - row * tileSize);
+                for (int y = 0; y < bandHeight; y++) {
+                    int pos = 1;
+                    for (int col = 0; col < columns; col++) {
+                        int tileWidth = Math.min(tileSize, width - col * tileSize);
+                        int offset = y * tileWidth;
+                        for (int x = 0; x < tileWidth; x++) {
+                            int rgb = bandPixels[col][offset + x];
+                            scanline[pos++] = (byte) (rgb >> 16);
+                            scanline[pos++] = (byte) (rgb >> 8);
+                            scanline[pos++] = (byte) rgb;
+                        }
+                    }
+                    pixels.write(scanline);
+                }
+            }
+            pixels.finish();
+            pixels.flush();
+
+            writeChunk(out, "IEND", new byte[0], 0);
+        } finally {
+            executor.shutdownNow();
+            deflater.end();
+        }
+    }
+
+    private ArrayList<Future<BufferedImage>> submitBand(ExecutorService executor, int row) {
+        ArrayList<Future<BufferedImage>> band = new ArrayList<>();
+        for (int col = 0; col < columns; col++) {
+            final int c = col;
+            band.add(executor.submit(() -> renderTile(c, row)));
+        }
+        return band;
+    }
+
+    private BufferedImage awaitTile(Future<BufferedImage> tile) throws IOException {
+        try {
+            return tile.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Tile rendering interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Tile rendering failed", e.getCause());
+        }
+    }
+
+    private static void writeChunk(OutputStream out, String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes("US-ASCII");
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+
+        DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeInt(length);
+        dataOut.write(typeBytes);
+        dataOut.write(data, 0, length);
+        dataOut.writeInt((int) crc.getValue());
+    }
+
+    // Splits the compressed pixel stream into IDAT chunks as it is produced
+    private static class IdatOutputStream extends OutputStream {
+        private OutputStream out;
+        private byte[] buffer = new byte[PNG_CHUNK_SIZE];
+        private int count = 0;
+
+        IdatOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) flush();
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (count == buffer.length) flush();
+                int n = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (count > 0) {
+                writeChunk(out, "IDAT", buffer, count);
+                count = 0;
+            }
+        }
+    }
+
+    public void exportSvg(File file) throws IOException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"))) {
+            exportSvg(out);
+        }
+    }
+
+    // Elements are written as they are visited, so no document tree is built in memory
+    public void exportSvg(Writer out) throws IOException {
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + width + "\" height=\"" + height
+                + "\" viewBox=\"0 0 " + width + " " + height + "\" font-family=\"Arial\" font-weight=\"bold\" font-size=\"14\">\n");
+        out.write("<rect width=\"100%\" height=\"100%\" fill=\"white\"/>\n");
+        out.write("<g transform=\"translate(" + offsetX + " " + offsetY + ") scale(" + scale + ")\">\n");
+
+        // Draw edges
+        ArrayList<Edge> pathEdges = graph.getShortestPathEdges();
+        for (Edge edge : graph.getEdges()) {
+            Node source = edge.getSource();
+            Node target = edge.getTarget();
+            boolean isShortestPath = pathEdges.contains(edge);
+            String color = toHex(GraphPanel.edgeColor(edge, isShortestPath));
+            float strokeWidth = GraphPanel.edgeStrokeWidth(edge, isShortestPath);
+
+            // Same branches as GraphPanel.drawGraph, so a mid-animation export matches the PNG
+            Point end = GraphPanel.lineEnd(edge);
+            out.write("<line x1=\"" + source.getX() + "\" y1=\"" + source.getY() + "\" x2=\"" + end.x
+                    + "\" y2=\"" + end.y + "\" stroke=\"" + color + "\" stroke-width=\"" + strokeWidth + "\"/>\n");
+
+            if (GraphPanel.isPartiallyDrawn(edge)) {
+                out.write("<circle cx=\"" + end.x + "\" cy=\"" + end.y + "\" r=\""
+                        + GraphPanel.pulseRadius(edge.getAnimationProgress()) + "\" fill=\"" + color + "\"/>\n");
+            } else {
+                Polygon arrow = GraphPanel.arrowHead(source.getX(), source.getY(), target.getX(), target.getY(), isShortestPath);
+                out.write("<polygon points=\"");
+                for (int i = 0; i < arrow.npoints; i++) {
+                    out.write((i > 0 ? " " : "") + arrow.xpoints[i] + "," + arrow.ypoints[i]);
+                }
+                out.write("\" fill=\"" + color + "\"/>\n");
+            }
+
+            int midX = (source.getX() + target.getX()) / 2;
+            int midY = (source.getY() + target.getY()) / 2;
+            String weightStr = String.valueOf(edge.getWeight());
+            int strWidth = weightStr.length() * 8;
+            out.write("<rect x=\"" + (midX - strWidth / 2 - 3) + "\" y=\"" + (midY - 10) + "\" width=\"" + (strWidth + 6)
+                    + "\" height=\"18\" fill=\"white\"/>\n");
+            out.write("<text x=\"" + midX + "\" y=\"" + (midY + 4) + "\" text-anchor=\"middle\" fill=\""
+                    + toHex(GraphPanel.weightColor(edge, isShortestPath)) + "\">" + weightStr + "</text>\n");
+        }
+
+        // Draw nodes
+        ArrayList<Node> pathNodes = graph.getShortestPathNodes();
+        for (Node node : graph.getNodes()) {
+            boolean isInShortestPath = pathNodes.contains(node);
+            if (node.isAnimating()) {
+                int glowRadius = GraphPanel.glowRadius(node);
+                for (int i = GraphPanel.GLOW_RINGS - 1; i >= 0; i--) {
+                    Color glow = GraphPanel.glowColor(i);
+                    out.write("<circle cx=\"" + node.getX() + "\" cy=\"" + node.getY() + "\" r=\""
+                            + (glowRadius + GraphPanel.glowOffset(i)) + "\" fill=\"" + toHex(glow)
+                            + "\" fill-opacity=\"" + glow.getAlpha() / 255f + "\"/>\n");
+                }
+            }
+            out.write("<circle cx=\"" + node.getX() + "\" cy=\"" + node.getY() + "\" r=\"" + node.getRadius()
+                    + "\" fill=\"" + toHex(GraphPanel.nodeColor(node, isInShortestPath))
+                    + "\" stroke=\"" + toHex(GraphPanel.nodeBorderColor(node, isInShortestPath))
+                    + "\" stroke-width=\"" + GraphPanel.nodeBorderWidth(node, isInShortestPath) + "\"/>\n");
+
+            String label = (graph.getLabel() != null) ?
+                    graph.getLabel()[node.getId()] :
+                    String.valueOf(node.getId());
+            out.write("<text x=\"" + node.getX() + "\" y=\"" + (node.getY() + 5) + "\" text-anchor=\"middle\" fill=\"white\">"
+                    + escapeXml(label) + "</text>\n");
+        }
+
+        out.write("</g>\n");
+        out.write("</svg>\n");
+        out.flush();
+    }
+
+    private static String toHex(Color color) {
+        return String.format("#%06x", color.getRGB() & 0xFFFFFF);
+    }
+
+    private static String escapeXml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    public int getColumns() { return columns; }
+    public int getRows() { return rows; }
+    public double getScale() { return scale; }
+}
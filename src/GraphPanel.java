@@ -1,6 +1,7 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.ArrayList;
 
 class GraphPanel extends JPanel {
     private Graph graph;
@@ -52,52 +53,32 @@ class GraphPanel extends JPanel {
         super.paintComponent(g);
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        drawGraph(g2d, graph, graph.getEdges(), graph.getNodes());
+    }
 
+    // Shared by the live panel and GraphExporter, which passes only the edges and nodes of one tile
+    static void drawGraph(Graphics2D g2d, Graph graph, ArrayList<Edge> edges, ArrayList<Node> nodes) {
         // Draw edges
-        for (Edge edge : graph.getEdges()) {
+        for (Edge edge : edges) {
             Node source = edge.getSource();
             Node target = edge.getTarget();
 
             // Check if this edge is part of shortest path
             boolean isShortestPath = graph.getShortestPathEdges().contains(edge);
-            boolean isAnimating = edge.isAnimating();
             float progress = edge.getAnimationProgress();
 
-            // Set color based on animation state
-            if (isAnimating && progress > 0) {
-                // Animate from gray to red
-                int red = (int)(120 + (100 * progress));
-                int green = (int)(120 - (100 * progress));
-                int blue = (int)(120 - (60 * progress));
-                g2d.setColor(new Color(red, green, blue));
-                g2d.setStroke(new BasicStroke(2 + (2 * progress)));
-            } else if (isShortestPath && !isAnimating) {
-                g2d.setColor(new Color(220, 20, 60)); // Red for completed path
-                g2d.setStroke(new BasicStroke(4));
-            } else {
-                g2d.setColor(Color.GRAY);
-                g2d.setStroke(new BasicStroke(2));
-            }
+            g2d.setColor(edgeColor(edge, isShortestPath));
+            g2d.setStroke(new BasicStroke(edgeStrokeWidth(edge, isShortestPath)));
 
             // Draw line with animation
-            if (isAnimating && progress < 1.0f) {
-                // Draw animated line from source to target
-                int x1 = source.getX();
-                int y1 = source.getY();
-                int x2 = (int)(x1 + (target.getX() - x1) * progress);
-                int y2 = (int)(y1 + (target.getY() - y1) * progress);
-                g2d.drawLine(x1, y1, x2, y2);
-
+            Point end = lineEnd(edge);
+            g2d.drawLine(source.getX(), source.getY(), end.x, end.y);
+            if (isPartiallyDrawn(edge)) {
                 // Draw pulsing circle at animation point
-                int pulseRadius = (int)(8 + 4 * Math.sin(progress * Math.PI * 4));
-                g2d.fillOval(x2 - pulseRadius, y2 - pulseRadius, pulseRadius * 2, pulseRadius * 2);
+                int pulseRadius = pulseRadius(progress);
+                g2d.fillOval(end.x - pulseRadius, end.y - pulseRadius, pulseRadius * 2, pulseRadius * 2);
             } else {
-                // Draw complete line
-                g2d.drawLine(source.getX(), source.getY(), target.getX(), target.getY());
-            }
-
-            // Draw arrow
-            if (!isAnimating || progress >= 1.0f) {
+                // Draw arrow
                 drawArrow(g2d, source.getX(), source.getY(), target.getX(), target.getY(), isShortestPath);
             }
 
@@ -114,65 +95,34 @@ class GraphPanel extends JPanel {
             g2d.fillRect(midX - strWidth/2 - 3, midY - 10, strWidth + 6, 18);
 
             // Draw weight text
-            if (isShortestPath || isAnimating) {
-                g2d.setColor(new Color(220, 20, 60)); // Red
-            } else {
-                g2d.setColor(new Color(100, 100, 100)); // Dark gray
-            }
+            g2d.setColor(weightColor(edge, isShortestPath));
             g2d.drawString(weightStr, midX - strWidth/2, midY + 4);
         }
 
         // Draw nodes
-        for (Node node : graph.getNodes()) {
+        for (Node node : nodes) {
             // Check if node is part of shortest path
             boolean isInShortestPath = graph.getShortestPathNodes().contains(node);
-            boolean isAnimating = node.isAnimating();
-            float progress = node.getAnimationProgress();
-
-            // Determine node color with animation
-            Color nodeColor;
-            if (isAnimating) {
-                // Animate from blue to red
-                int red = (int)(70 + (150 * progress));
-                int green = (int)(130 - (110 * progress));
-                int blue = (int)(180 - (120 * progress));
-                nodeColor = new Color(red, green, blue);
-            } else if (isInShortestPath) {
-                nodeColor = new Color(220, 20, 60); // Red for nodes in shortest path
-            } else {
-                nodeColor = new Color(70, 130, 180);
-            }
 
             // Draw pulsing glow for animating nodes
-            if (isAnimating) {
-                float pulseSize = 1.0f + 0.3f * (float)Math.sin(progress * Math.PI * 8);
-                int glowRadius = (int)(node.getRadius() * pulseSize);
-
-                for (int i = 3; i >= 0; i--) {
-                    int alpha = (int)(50 - i * 10);
-                    g2d.setColor(new Color(220, 20, 60, alpha));
-                    int offset = i * 4;
-                    g2d.fillOval(node.getX() - glowRadius - offset,
-                            node.getY() - glowRadius - offset,
-                            (glowRadius + offset) * 2,
-                            (glowRadius + offset) * 2);
+            if (node.isAnimating()) {
+                int glowRadius = glowRadius(node);
+                for (int i = GLOW_RINGS - 1; i >= 0; i--) {
+                    g2d.setColor(glowColor(i));
+                    int ringRadius = glowRadius + glowOffset(i);
+                    g2d.fillOval(node.getX() - ringRadius, node.getY() - ringRadius, ringRadius * 2, ringRadius * 2);
                 }
             }
 
-            g2d.setColor(nodeColor);
+            g2d.setColor(nodeColor(node, isInShortestPath));
             g2d.fillOval(node.getX() - node.getRadius(),
                     node.getY() - node.getRadius(),
                     node.getRadius() * 2,
                     node.getRadius() * 2);
 
             // Draw node border
-            if (isInShortestPath || isAnimating) {
-                g2d.setColor(new Color(139, 0, 0)); // Dark red border
-                g2d.setStroke(new BasicStroke(3));
-            } else {
-                g2d.setColor(Color.BLACK);
-                g2d.setStroke(new BasicStroke(2));
-            }
+            g2d.setColor(nodeBorderColor(node, isInShortestPath));
+            g2d.setStroke(new BasicStroke(nodeBorderWidth(node, isInShortestPath)));
 
             g2d.drawOval(node.getX() - node.getRadius(),
                     node.getY() - node.getRadius(),
@@ -192,7 +142,99 @@ class GraphPanel extends JPanel {
         }
     }
 
-    private void drawArrow(Graphics2D g2d, int x1, int y1, int x2, int y2, boolean isShortestPath) {
+    // Colors, animation geometry and arrow shape are shared with GraphExporter's SVG output
+    static final int GLOW_RINGS = 4;
+
+    static boolean isPartiallyDrawn(Edge edge) {
+        return edge.isAnimating() && edge.getAnimationProgress() < 1.0f;
+    }
+
+    // Where the drawn line stops: the target, or the animation point while the edge grows
+    static Point lineEnd(Edge edge) {
+        Node source = edge.getSource();
+        Node target = edge.getTarget();
+        if (!isPartiallyDrawn(edge)) {
+            return new Point(target.getX(), target.getY());
+        }
+        float progress = edge.getAnimationProgress();
+        return new Point((int)(source.getX() + (target.getX() - source.getX()) * progress),
+                (int)(source.getY() + (target.getY() - source.getY()) * progress));
+    }
+
+    static int pulseRadius(float progress) {
+        return (int)(8 + 4 * Math.sin(progress * Math.PI * 4));
+    }
+
+    static int glowRadius(Node node) {
+        float pulseSize = 1.0f + 0.3f * (float)Math.sin(node.getAnimationProgress() * Math.PI * 8);
+        return (int)(node.getRadius() * pulseSize);
+    }
+
+    static Color glowColor(int ring) {
+        return new Color(220, 20, 60, 50 - ring * 10);
+    }
+
+    static int glowOffset(int ring) {
+        return ring * 4;
+    }
+
+    static Color edgeColor(Edge edge, boolean isShortestPath) {
+        float progress = edge.getAnimationProgress();
+        if (edge.isAnimating() && progress > 0) {
+            // Animate from gray to red
+            int red = (int)(120 + (100 * progress));
+            int green = (int)(120 - (100 * progress));
+            int blue = (int)(120 - (60 * progress));
+            return new Color(red, green, blue);
+        } else if (isShortestPath && !edge.isAnimating()) {
+            return new Color(220, 20, 60); // Red for completed path
+        }
+        return Color.GRAY;
+    }
+
+    static float edgeStrokeWidth(Edge edge, boolean isShortestPath) {
+        float progress = edge.getAnimationProgress();
+        if (edge.isAnimating() && progress > 0) {
+            return 2 + (2 * progress);
+        } else if (isShortestPath && !edge.isAnimating()) {
+            return 4;
+        }
+        return 2;
+    }
+
+    static Color weightColor(Edge edge, boolean isShortestPath) {
+        if (isShortestPath || edge.isAnimating()) {
+            return new Color(220, 20, 60); // Red
+        }
+        return new Color(100, 100, 100); // Dark gray
+    }
+
+    static Color nodeColor(Node node, boolean isInShortestPath) {
+        float progress = node.getAnimationProgress();
+        if (node.isAnimating()) {
+            // Animate from blue to red
+            int red = (int)(70 + (150 * progress));
+            int green = (int)(130 - (110 * progress));
+            int blue = (int)(180 - (120 * progress));
+            return new Color(red, green, blue);
+        } else if (isInShortestPath) {
+            return new Color(220, 20, 60); // Red for nodes in shortest path
+        }
+        return new Color(70, 130, 180);
+    }
+
+    static Color nodeBorderColor(Node node, boolean isInShortestPath) {
+        if (isInShortestPath || node.isAnimating()) {
+            return new Color(139, 0, 0); // Dark red border
+        }
+        return Color.BLACK;
+    }
+
+    static float nodeBorderWidth(Node node, boolean isInShortestPath) {
+        return (isInShortestPath || node.isAnimating()) ? 3 : 2;
+    }
+
+    static Polygon arrowHead(int x1, int y1, int x2, int y2, boolean isShortestPath) {
         double angle = Math.atan2(y2 - y1, x2 - x1);
         int arrowSize = isShortestPath ? 14 : 12;
 
@@ -212,6 +254,10 @@ class GraphPanel extends JPanel {
                 arrowY - (int)(arrowSize * Math.sin(angle + Math.PI / 6))
         };
 
-        g2d.fillPolygon(xPoints, yPoints, 3);
+        return new Polygon(xPoints, yPoints, 3);
+    }
+
+    private static void drawArrow(Graphics2D g2d, int x1, int y1, int x2, int y2, boolean isShortestPath) {
+        g2d.fillPolygon(arrowHead(x1, y1, x2, y2, isShortestPath));
     }
 }
\ No newline at end of file
@@ -0,0 +1,216 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+class GraphPartition {
+    private static final int REFINEMENT_PASSES = 8;
+
+    private int regionCount;
+    private int[] regionOf;
+    private boolean[] boundary;
+
+    // Splits the graph into k regions by recursive bisection; each cut is grown by BFS
+    // and then refined with greedy moves that lower the number of cut edges.
+    // The graph is given in compressed form: the edges of u are targets[offsets[u]..offsets[u + 1]].
+    public GraphPartition(int[] offsets, int[] targets, int k) {
+        int n = offsets.length - 1;
+        if (k < 1 || k > Math.max(1, n)) {
+            throw new IllegalArgumentException("Region count must be between 1 and the number of nodes");
+        }
+        this.regionCount = k;
+        this.regionOf = new int[n];
+        this.boundary = new boolean[n];
+
+        // The neighbor lists only live for the duration of partitioning
+        Bisector bisector = new Bisector(offsets, targets);
+        int[] all = new int[n];
+        for (int i = 0; i < n; i++) all[i] = i;
+        bisector.bisect(all, k, 0);
+
+        for (int u = 0; u < n; u++) {
+            for (int e = bisector.neighborOffsets[u]; e < bisector.neighborOffsets[u + 1]; e++) {
+                if (regionOf[u] != regionOf[bisector.neighbors[e]]) {
+                    boundary[u] = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    private class Bisector {
+        private int[] neighborOffsets;
+        private int[] neighbors;
+        // -1 means outside the subset being split, 0 right side, 1 left side
+        private int[] side;
+        private int[] visited;
+        private int visitStamp = 0;
+
+        // Direction and weight do not matter for the cut, only whether two nodes are connected
+        Bisector(int[] offsets, int[] targets) {
+            int n = offsets.length - 1;
+            int[] rowStart = new int[n + 1];
+            for (int u = 0; u < n; u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    if (targets[e] != u) {
+                        rowStart[u + 1]++;
+                        rowStart[targets[e] + 1]++;
+                    }
+                }
+            }
+            for (int i = 1; i <= n; i++) rowStart[i] += rowStart[i - 1];
+
+            neighbors = new int[rowStart[n]];
+            int[] next = Arrays.copyOf(rowStart, n);
+            for (int u = 0; u < n; u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    if (v != u) {
+                        neighbors[next[u]++] = v;
+                        neighbors[next[v]++] = u;
+                    }
+                }
+            }
+
+            // Drop duplicates left by edges that exist in both directions
+            neighborOffsets = new int[n + 1];
+            int count = 0;
+            for (int u = 0; u < n; u++) {
+                Arrays.sort(neighbors, rowStart[u], rowStart[u + 1]);
+                neighborOffsets[u] = count;
+                for (int i = rowStart[u]; i < rowStart[u + 1]; i++) {
+                    if (i == rowStart[u] || neighbors[i] != neighbors[i - 1]) {
+                        neighbors[count++] = neighbors[i];
+                    }
+                }
+            }
+            neighborOffsets[n] = count;
+
+            side = new int[n];
+            Arrays.fill(side, -1);
+            visited = new int[n];
+        }
+
+        void bisect(int[] nodes, int k, int firstRegion) {
+            if (k == 1) {
+                for (int node : nodes) regionOf[node] = firstRegion;
+                return;
+            }
+
+            int leftRegions = k / 2;
+            int leftTarget = (int)((long) nodes.length * leftRegions / k);
+
+            for (int node : nodes) side[node] = 0;
+            growLeftSide(nodes, leftTarget);
+            int leftSize = refine(nodes, leftTarget, leftRegions, k - leftRegions);
+
+            int[] left = new int[leftSize];
+            int[] right = new int[nodes.length - leftSize];
+            int l = 0, r = 0;
+            for (int node : nodes) {
+                if (side[node] == 1) left[l++] = node;
+                else right[r++] = node;
+                side[node] = -1;
+            }
+
+            bisect(left, leftRegions, firstRegion);
+            bisect(right, k - leftRegions, firstRegion + leftRegions);
+        }
+
+        private void growLeftSide(int[] nodes, int target) {
+            int grown = 0;
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            int nextSeed = 0;
+
+            while (grown < target) {
+                if (queue.isEmpty()) {
+                    // Start from a far-away node so the region grows as a compact blob
+                    while (side[nodes[nextSeed]] != 0) nextSeed++;
+                    int seed = farthestNode(nodes[nextSeed]);
+                    side[seed] = 1;
+                    grown++;
+                    queue.add(seed);
+                    continue;
+                }
+
+                int u = queue.poll();
+                for (int e = neighborOffsets[u]; e < neighborOffsets[u + 1] && grown < target; e++) {
+                    int v = neighbors[e];
+                    if (side[v] == 0) {
+                        side[v] = 1;
+                        grown++;
+                        queue.add(v);
+                    }
+                }
+            }
+        }
+
+        // Last node reached by a BFS over unassigned nodes of the subset
+        private int farthestNode(int start) {
+            visitStamp++;
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            queue.add(start);
+            visited[start] = visitStamp;
+            int last = start;
+            while (!queue.isEmpty()) {
+                last = queue.poll();
+                for (int e = neighborOffsets[last]; e < neighborOffsets[last + 1]; e++) {
+                    int v = neighbors[e];
+                    if (side[v] == 0 && visited[v] != visitStamp) {
+                        visited[v] = visitStamp;
+                        queue.add(v);
+                    }
+                }
+            }
+            return last;
+        }
+
+        // Returns the final size of the left side, which may differ from leftTarget by the
+        // tolerance but always leaves each side at least one node per region it will hold
+        private int refine(int[] nodes, int leftTarget, int minLeft, int minRight) {
+            int tolerance = Math.max(1, nodes.length * 3 / 100);
+            int leftSize = leftTarget;
+
+            for (int pass = 0; pass < REFINEMENT_PASSES; pass++) {
+                boolean moved = false;
+                for (int u : nodes) {
+                    int internal = 0, external = 0;
+                    for (int e = neighborOffsets[u]; e < neighborOffsets[u + 1]; e++) {
+                        int v = neighbors[e];
+                        if (side[v] == side[u]) internal++;
+                        else if (side[v] != -1) external++;
+                    }
+                    if (external <= internal) continue;
+
+                    int newLeftSize = leftSize + (side[u] == 1 ? -1 : 1);
+                    if (Math.abs(newLeftSize - leftTarget) > tolerance
+                            || newLeftSize < minLeft || nodes.length - newLeftSize < minRight) {
+                        continue;
+                    }
+                    side[u] = 1 - side[u];
+                    leftSize = newLeftSize;
+                    moved = true;
+                }
+                if (!moved) break;
+            }
+            return leftSize;
+        }
+    }
+
+    public int getRegionCount() { return regionCount; }
+    public int getRegion(int node) { return regionOf[node]; }
+    public boolean isBoundary(int node) { return boundary[node]; }
+
+    public ArrayList<Integer> getRegionNodes(int region) {
+        ArrayList<Integer> result = new ArrayList<>();
+        for (int i = 0; i < regionOf.length; i++) {
+            if (regionOf[i] == region) result.add(i);
+        }
+        return result;
+    }
+
+    public int getBoundaryCount() {
+        int count = 0;
+        for (boolean b : boundary) if (b) count++;
+        return count;
+    }
+}
@@ -0,0 +1,177 @@
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+// Holds a single region of a partitioned graph and answers distance queries inside it.
+// Run as its own process; it listens on a local socket and prints "PORT <n>" once ready.
+class PartitionWorker {
+    static final int CMD_SHUTDOWN = 0;
+    static final int CMD_LOAD = 1;
+    static final int CMD_FROM = 2;
+    static final int CMD_TO = 3;
+
+    // Nodes are numbered 0..nodeCount - 1 inside the region; the coordinator maps global ids
+    private int nodeCount;
+    private int[] boundaryNodes;
+
+    // Forward and reverse adjacency in compressed form: neighbors of u are at offsets[u]..offsets[u + 1]
+    private int[] forwardOffsets, forwardTargets, forwardWeights;
+    private int[] reverseOffsets, reverseTargets, reverseWeights;
+
+    public void load(boolean[] isBoundary, int[] edgeFrom, int[] edgeTo, int[] edgeWeight) {
+        int n = isBoundary.length;
+        this.nodeCount = n;
+
+        int boundaryCount = 0;
+        for (boolean b : isBoundary) if (b) boundaryCount++;
+        boundaryNodes = new int[boundaryCount];
+        for (int i = 0, b = 0; i < n; i++) {
+            if (isBoundary[i]) boundaryNodes[b++] = i;
+        }
+
+        forwardOffsets = new int[n + 1];
+        forwardTargets = new int[edgeFrom.length];
+        forwardWeights = new int[edgeFrom.length];
+        buildAdjacency(edgeFrom, edgeTo, edgeWeight, forwardOffsets, forwardTargets, forwardWeights);
+
+        reverseOffsets = new int[n + 1];
+        reverseTargets = new int[edgeFrom.length];
+        reverseWeights = new int[edgeFrom.length];
+        buildAdjacency(edgeTo, edgeFrom, edgeWeight, reverseOffsets, reverseTargets, reverseWeights);
+    }
+
+    private static void buildAdjacency(int[] from, int[] to, int[] weight, int[] offsets, int[] targets, int[] weights) {
+        for (int u : from) offsets[u + 1]++;
+        for (int i = 1; i < offsets.length; i++) offsets[i] += offsets[i - 1];
+        int[] next = Arrays.copyOf(offsets, offsets.length);
+        for (int e = 0; e < from.length; e++) {
+            int slot = next[from[e]]++;
+            targets[slot] = to[e];
+            weights[slot] = weight[e];
+        }
+    }
+
+    // Dijkstra restricted to this region
+    private int[] dijkstra(int source, int[] offsets, int[] targets, int[] weights) {
+        int[] dist = new int[nodeCount];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[source] = 0;
+
+        PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> Integer.compare(a[1], b[1]));
+        queue.add(new int[] {source, 0});
+        while (!queue.isEmpty()) {
+            int[] entry = queue.poll();
+            int u = entry[0];
+            if (entry[1] > dist[u]) continue;
+
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                int alt = dist[u] + weights[e];
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    queue.add(new int[] {v, alt});
+                }
+            }
+        }
+        return dist;
+    }
+
+    // Row i holds the distances from boundary node i to every boundary node of the region
+    public int[][] boundaryDistances() {
+        int[][] result = new int[boundaryNodes.length][];
+        for (int i = 0; i < boundaryNodes.length; i++) {
+            result[i] = pickBoundary(dijkstra(boundaryNodes[i], forwardOffsets, forwardTargets, forwardWeights));
+        }
+        return result;
+    }
+
+    // One search answers both parts of a query: element 0 is the distance to end inside the
+    // region (Integer.MAX_VALUE when end is -1 or elsewhere), the rest are the boundary distances
+    public int[] distancesFrom(int start, int end) {
+        int[] dist = dijkstra(start, forwardOffsets, forwardTargets, forwardWeights);
+        int[] result = new int[boundaryNodes.length + 1];
+        result[0] = end == -1 ? Integer.MAX_VALUE : dist[end];
+        for (int i = 0; i < boundaryNodes.length; i++) result[i + 1] = dist[boundaryNodes[i]];
+        return result;
+    }
+
+    public int[] distancesTo(int end) {
+        return pickBoundary(dijkstra(end, reverseOffsets, reverseTargets, reverseWeights));
+    }
+
+    private int[] pickBoundary(int[] dist) {
+        int[] result = new int[boundaryNodes.length];
+        for (int i = 0; i < boundaryNodes.length; i++) result[i] = dist[boundaryNodes[i]];
+        return result;
+    }
+
+    public void serve(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+        while (true) {
+            int command;
+            try {
+                command = in.readInt();
+            } catch (EOFException e) {
+                return;
+            }
+
+            switch (command) {
+                case CMD_LOAD: {
+                    boolean[] isBoundary = new boolean[in.readInt()];
+                    for (int i = 0; i < isBoundary.length; i++) isBoundary[i] = in.readBoolean();
+                    int edgeCount = in.readInt();
+                    int[] from = new int[edgeCount];
+                    int[] to = new int[edgeCount];
+                    int[] weight = new int[edgeCount];
+                    for (int e = 0; e < edgeCount; e++) {
+                        from[e] = in.readInt();
+                        to[e] = in.readInt();
+                        weight[e] = in.readInt();
+                    }
+                    load(isBoundary, from, to, weight);
+
+                    for (int[] row : boundaryDistances()) writeInts(out, row);
+                    break;
+                }
+                case CMD_FROM:
+                    writeInts(out, distancesFrom(in.readInt(), in.readInt()));
+                    break;
+                case CMD_TO:
+                    writeInts(out, distancesTo(in.readInt()));
+                    break;
+                case CMD_SHUTDOWN:
+                    return;
+                default:
+                    throw new IOException("Unknown command " + command);
+            }
+            out.flush();
+        }
+    }
+
+    static int[] readInts(DataInputStream in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) values[i] = in.readInt();
+        return values;
+    }
+
+    static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) out.writeInt(value);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        try (ServerSocket server = new ServerSocket(port, 1, InetAddress.getLoopbackAddress())) {
+            System.out.println("PORT " + server.getLocalPort());
+            System.out.flush();
+            try (Socket socket = server.accept()) {
+                new PartitionWorker().serve(socket);
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+// Answers shortest path queries over a graph split into regions held by separate worker processes.
+// Each worker precomputes boundary-to-boundary distances of its region; those distances and the
+// edges crossing between regions form a small overlay graph searched here, as in multi-level Dijkstra.
+class PartitionedGraph implements Closeable {
+    private GraphPartition partition;
+    private ArrayList<Process> processes = new ArrayList<>();
+    private Socket[] sockets;
+    private DataInputStream[] inputs;
+    private DataOutputStream[] outputs;
+
+    private int[][] regionBoundary;      // Global ids of each region's boundary nodes, in worker order
+    private int[] overlayIndex;          // Global id -> overlay node, or -1 when not a boundary node
+    private int[] localIndex;            // Global id -> index inside its region, as numbered by the worker
+    private ArrayList<ArrayList<int[]>> overlayEdges = new ArrayList<>();
+
+    // Connects to workers that are already listening on the given local ports, one per region.
+    // The graph is given in compressed form: the edges of u are offsets[u]..offsets[u + 1] in targets and weights.
+    public PartitionedGraph(int[] offsets, int[] targets, int[] weights, int k, int[] workerPorts) throws IOException {
+        if (workerPorts.length != k) {
+            throw new IllegalArgumentException("Expected one worker port per region");
+        }
+        try {
+            connect(workerPorts);
+            initialize(offsets, targets, weights, k);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private PartitionedGraph() {
+    }
+
+    // Starts one worker process per region on this machine, using the current classpath
+    public static PartitionedGraph launchLocal(int[] offsets, int[] targets, int[] weights, int k) throws IOException {
+        PartitionedGraph result = new PartitionedGraph();
+        try {
+            int[] ports = new int[k];
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            for (int i = 0; i < k; i++) {
+                Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), "PartitionWorker")
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start();
+                result.processes.add(process);
+
+                BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+                String line = reader.readLine();
+                if (line == null || !line.startsWith("PORT ")) {
+                    throw new IOException("Worker " + i + " failed to start");
+                }
+                ports[i] = Integer.parseInt(line.substring(5).trim());
+            }
+            result.connect(ports);
+            result.initialize(offsets, targets, weights, k);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            result.close();
+            throw e;
+        }
+    }
+
+    // Converts a small adjacency matrix, as used by Graph, into {offsets, targets, weights}
+    public static int[][] toCompressed(int[][] adjacencyMatrix) {
+        int n = adjacencyMatrix.length;
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (adjacencyMatrix[i][j] != 0) offsets[i + 1]++;
+            }
+            offsets[i + 1] += offsets[i];
+        }
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        for (int i = 0, e = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (adjacencyMatrix[i][j] != 0) {
+                    targets[e] = j;
+                    weights[e++] = adjacencyMatrix[i][j];
+                }
+            }
+        }
+        return new int[][] {offsets, targets, weights};
+    }
+
+    private void connect(int[] ports) throws IOException {
+        sockets = new Socket[ports.length];
+        inputs = new DataInputStream[ports.length];
+        outputs = new DataOutputStream[ports.length];
+        for (int i = 0; i < ports.length; i++) {
+            sockets[i] = new Socket(InetAddress.getLoopbackAddress(), ports[i]);
+            inputs[i] = new DataInputStream(new BufferedInputStream(sockets[i].getInputStream()));
+            outputs[i] = new DataOutputStream(new BufferedOutputStream(sockets[i].getOutputStream()));
+        }
+    }
+
+    private void initialize(int[] offsets, int[] targets, int[] weights, int k) throws IOException {
+        int n = offsets.length - 1;
+        partition = new GraphPartition(offsets, targets, k);
+
+        // Number every node inside its region and every boundary node in the overlay
+        int[] regionSize = new int[k];
+        int[] boundarySize = new int[k];
+        localIndex = new int[n];
+        overlayIndex = new int[n];
+        Arrays.fill(overlayIndex, -1);
+        for (int u = 0; u < n; u++) {
+            int r = partition.getRegion(u);
+            localIndex[u] = regionSize[r]++;
+            if (partition.isBoundary(u)) {
+                boundarySize[r]++;
+                overlayIndex[u] = overlayEdges.size();
+                overlayEdges.add(new ArrayList<>());
+            }
+        }
+
+        int[][] regionNodes = new int[k][];
+        regionBoundary = new int[k][];
+        for (int r = 0; r < k; r++) {
+            regionNodes[r] = new int[regionSize[r]];
+            regionBoundary[r] = new int[boundarySize[r]];
+            boundarySize[r] = 0;
+        }
+        for (int u = 0; u < n; u++) {
+            int r = partition.getRegion(u);
+            regionNodes[r][localIndex[u]] = u;
+            if (partition.isBoundary(u)) regionBoundary[r][boundarySize[r]++] = u;
+        }
+
+        // Regions are shipped one at a time, streaming their edges straight to the worker so only
+        // the caller's arrays hold the graph; edges leaving a region go into the overlay instead
+        for (int r = 0; r < k; r++) {
+            int edgeCount = 0;
+            for (int u : regionNodes[r]) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    if (partition.getRegion(targets[e]) == r) edgeCount++;
+                }
+            }
+
+            DataOutputStream out = outputs[r];
+            out.writeInt(PartitionWorker.CMD_LOAD);
+            out.writeInt(regionNodes[r].length);
+            for (int id : regionNodes[r]) out.writeBoolean(partition.isBoundary(id));
+            out.writeInt(edgeCount);
+            for (int u : regionNodes[r]) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    if (partition.getRegion(v) == r) {
+                        out.writeInt(localIndex[u]);
+                        out.writeInt(localIndex[v]);
+                        out.writeInt(weights[e]);
+                    } else {
+                        overlayEdges.get(overlayIndex[u]).add(new int[] {overlayIndex[v], weights[e]});
+                    }
+                }
+            }
+            out.flush();
+            regionNodes[r] = null;
+        }
+
+        // Each worker answers with its boundary clique, in the same boundary order as regionBoundary
+        for (int r = 0; r < k; r++) {
+            for (int i = 0; i < regionBoundary[r].length; i++) {
+                int[] row = PartitionWorker.readInts(inputs[r]);
+                for (int j = 0; j < row.length; j++) {
+                    if (i != j && row[j] != Integer.MAX_VALUE) {
+                        overlayEdges.get(overlayIndex[regionBoundary[r][i]]).add(
+                                new int[] {overlayIndex[regionBoundary[r][j]], row[j]});
+                    }
+                }
+            }
+        }
+    }
+
+    // Same contract as Graph.findShortestPath: returns Integer.MAX_VALUE when no path exists
+    public int findShortestPath(int start, int end) throws IOException {
+        int startRegion = partition.getRegion(start);
+        int endRegion = partition.getRegion(end);
+        // Both workers search at the same time; when start and end share a region the
+        // forward search also yields the distance that stays inside the region
+        outputs[startRegion].writeInt(PartitionWorker.CMD_FROM);
+        outputs[startRegion].writeInt(localIndex[start]);
+        outputs[startRegion].writeInt(startRegion == endRegion ? localIndex[end] : -1);
+        outputs[startRegion].flush();
+        outputs[endRegion].writeInt(PartitionWorker.CMD_TO);
+        outputs[endRegion].writeInt(localIndex[end]);
+        outputs[endRegion].flush();
+
+        int[] fromStart = PartitionWorker.readInts(inputs[startRegion]);
+        int[] toEnd = PartitionWorker.readInts(inputs[endRegion]);
+        int best = fromStart[0];
+
+        int[] exitCost = new int[overlayEdges.size()];
+        Arrays.fill(exitCost, Integer.MAX_VALUE);
+        for (int i = 0; i < toEnd.length; i++) {
+            exitCost[overlayIndex[regionBoundary[endRegion][i]]] = toEnd[i];
+        }
+
+        // Dijkstra over the overlay, seeded with the distances from start to its region's boundary
+        int[] dist = new int[overlayEdges.size()];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> Integer.compare(a[1], b[1]));
+        for (int i = 1; i < fromStart.length; i++) {
+            if (fromStart[i] != Integer.MAX_VALUE) {
+                int u = overlayIndex[regionBoundary[startRegion][i - 1]];
+                dist[u] = fromStart[i];
+                queue.add(new int[] {u, fromStart[i]});
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int[] entry = queue.poll();
+            int u = entry[0];
+            if (entry[1] > dist[u]) continue;
+            if (dist[u] >= best) break;
+
+            if (exitCost[u] != Integer.MAX_VALUE) {
+                best = Math.min(best, dist[u] + exitCost[u]);
+            }
+            for (int[] edge : overlayEdges.get(u)) {
+                int alt = dist[u] + edge[1];
+                if (alt < dist[edge[0]]) {
+                    dist[edge[0]] = alt;
+                    queue.add(new int[] {edge[0], alt});
+                }
+            }
+        }
+        return best;
+    }
+
+    public GraphPartition getPartition() { return partition; }
+    public int getOverlaySize() { return overlayEdges.size(); }
+
+    @Override
+    public void close() {
+        if (outputs != null) {
+            for (int i = 0; i < outputs.length; i++) {
+                try {
+                    if (outputs[i] != null) {
+                        outputs[i].writeInt(PartitionWorker.CMD_SHUTDOWN);
+                        outputs[i].flush();
+                    }
+                } catch (IOException e) {
+                    // Worker already gone
+                }
+                try {
+                    if (sockets[i] != null) sockets[i].close();
+                } catch (IOException e) {
+                    // Nothing left to release
+                }
+            }
+        }
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(5, TimeUnit.SECONDS)) process.destroyForcibly();
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}